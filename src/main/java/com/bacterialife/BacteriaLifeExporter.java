@@ -0,0 +1,493 @@
+package com.bacterialife;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SampleModel;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Headless export of generations to a PNG sequence or an animated GIF.
+// Frames are encoded in parallel and written to disk in order by a single writer thread.
+public class BacteriaLifeExporter implements AutoCloseable {
+    public enum Format { PNG_SEQUENCE, GIF }
+
+    // Palette index 0 is an empty cell, 1 is a bacteria (same colors as the UI)
+    private static final IndexColorModel PALETTE = new IndexColorModel(2, 4,
+            new byte[]{(byte) 255, 0, 0, 0},
+            new byte[]{(byte) 255, 0, 0, 0},
+            new byte[]{(byte) 255, 0, 0, 0});
+    // Same colors packed 8 pixels per byte, PNG filters and deflates 8 times less data
+    private static final IndexColorModel BINARY_PALETTE = new IndexColorModel(1, 2,
+            new byte[]{(byte) 255, 0},
+            new byte[]{(byte) 255, 0},
+            new byte[]{(byte) 255, 0});
+    private static final int GIF_MIN_CODE_SIZE = 2;
+    private static final int GIF_MAX_CODE = 4096;
+    // Maps to deflate level 1 in the JDK PNG writer
+    private static final float PNG_QUALITY = 0.8f;
+
+    private final Path target;
+    private final Format format;
+    private final int DIMENSION;
+    private final int cellSize;
+    private final int width;
+    private final int delayCs;
+
+    private final ExecutorService encoders;
+    private final ExecutorService writer;
+    // Bounds the frames in flight so the simulation can't outrun the disk without limit
+    private final Semaphore inFlight;
+    // Reused rasters, a frame goes back to the pool as soon as it has been encoded
+    private final BlockingQueue<BufferedImage> freeImages;
+    // One LZW table per encoder thread
+    private final ThreadLocal<int[]> lzwTable =
+            ThreadLocal.withInitial(() -> new int[GIF_MAX_CODE << GIF_MIN_CODE_SIZE]);
+    // One PNG writer per encoder thread, reused for every frame
+    private final ThreadLocal<ImageWriter> pngWriter =
+            ThreadLocal.withInitial(() -> ImageIO.getImageWritersByFormatName("png").next());
+
+    private final OutputStream gifOut;
+    private volatile IOException failure;
+    private int frameCount = 0;
+    private boolean closed = false;
+
+    public BacteriaLifeExporter(Path target, Format format, int dimension, int cellSize,
+                                int workers, int delayMs) throws IOException {
+        if (dimension <= 0 || cellSize <= 0 || workers <= 0 || delayMs < 0) {
+            throw new IllegalArgumentException("Dimension, cell size and workers must be positive and delay not negative");
+        }
+        long size = (long) dimension * cellSize;
+        // GIF stores width and height in 16 bits, PNG frames are only bounded by the raster size
+        if (format == Format.GIF ? size > 0xFFFF : size * ((size + 7) / 8) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image too large: " + size + " pixels");
+        }
+        this.target = target;
+        this.format = format;
+        this.DIMENSION = dimension;
+        this.cellSize = cellSize;
+        this.width = dimension * cellSize;
+        this.delayCs = delayMs / 10;
+
+        this.gifOut = format == Format.GIF
+                ? new BufferedOutputStream(Files.newOutputStream(target), 1 << 16) : null;
+        // The caller never gets an object to close if this fails, so close the file here
+        try {
+            if (gifOut != null) {
+                writeGifHeader();
+            } else {
+                Files.createDirectories(target);
+            }
+
+            int buffers = workers * 2;
+            this.inFlight = new Semaphore(buffers);
+            this.freeImages = new ArrayBlockingQueue<>(buffers);
+            for (int i = 0; i < buffers; i++) {
+                freeImages.add(format == Format.GIF
+                        ? new BufferedImage(width, width, BufferedImage.TYPE_BYTE_INDEXED, PALETTE)
+                        : new BufferedImage(width, width, BufferedImage.TYPE_BYTE_BINARY, BINARY_PALETTE));
+            }
+            this.encoders = Executors.newFixedThreadPool(workers, r -> daemon(r, "bacterialife-encoder"));
+            this.writer = Executors.newSingleThreadExecutor(r -> daemon(r, "bacterialife-writer"));
+        } catch (Throwable e) {
+            if (gifOut != null) {
+                try {
+                    gifOut.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    // Run the simulation from the given gen until it's stable or maxFrames have been exported.
+    // Two boards are swapped between rounds, the given gen is left untouched
+    public int exportRun(BacteriaLifeLogic logic, int[][] gen, int maxFrames) throws IOException {
+        checkSize(gen);
+        int[][] current = new int[DIMENSION][];
+        int[][] next = new int[DIMENSION][DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            current[i] = Arrays.copyOf(gen[i], DIMENSION);
+        }
+        int exported = 0;
+        while (exported < maxFrames) {
+            // The frame is rendered before addFrame returns, so the board can be reused right after
+            addFrame(current);
+            exported++;
+            if (exported == maxFrames) {
+                break;
+            }
+            if (!logic.generateNewGen(current, next)) {
+                if (logic.getRound() > logic.getMaxRounds()) {
+                    System.out.println("Round limit of " + logic.getMaxRounds() + " reached, exported "
+                            + exported + " of " + maxFrames + " frames.");
+                }
+                break;
+            }
+            int[][] swap = current;
+            current = next;
+            next = swap;
+        }
+        return exported;
+    }
+
+    // Queue a gen for export, only blocks when every buffer is still waiting for the encoder or disk
+    public void addFrame(int[][] gen) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Exporter already closed");
+        }
+        checkSize(gen);
+        checkFailure();
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free frame");
+        }
+        BufferedImage image = null;
+        Future<byte[]> encoded;
+        try {
+            image = freeImages.take();
+            render(gen, image);
+            BufferedImage frame = image;
+            encoded = encoders.submit(() -> {
+                try {
+                    return format == Format.GIF ? encodeGifFrame(frame) : encodePng(frame);
+                } finally {
+                    freeImages.add(frame);
+                }
+            });
+        } catch (InterruptedException e) {
+            giveBack(image);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free frame");
+        } catch (RuntimeException e) {
+            giveBack(image);
+            throw e;
+        }
+
+        int index = frameCount++;
+        // Single writer thread, so frames hit the disk in submission order
+        writer.execute(() -> {
+            try {
+                if (failure == null) {
+                    writeFrame(index, encoded.get());
+                }
+            } catch (IOException e) {
+                fail(e);
+            } catch (ExecutionException e) {
+                fail(e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause()));
+            } catch (InterruptedException e) {
+                fail(new InterruptedIOException("Interrupted before frame " + index + " was written"));
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void checkSize(int[][] gen) {
+        if (gen.length != DIMENSION) {
+            throw new IllegalArgumentException("Gen must be " + DIMENSION + "x" + DIMENSION);
+        }
+        for (int[] row : gen) {
+            if (row.length != DIMENSION) {
+                throw new IllegalArgumentException("Gen must be " + DIMENSION + "x" + DIMENSION);
+            }
+        }
+    }
+
+    // Return the permit and buffer of a frame that never reached the encoder
+    private void giveBack(BufferedImage image) {
+        if (image != null) {
+            freeImages.add(image);
+        }
+        inFlight.release();
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    // Wait for every queued frame to be written and finish the file
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        encoders.shutdown();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            if (gifOut != null) {
+                gifOut.write(0x3B); // Trailer
+            }
+        } catch (InterruptedException e) {
+            // Stop the pools but let the writer leave gifOut before it gets closed
+            encoders.shutdownNow();
+            writer.shutdownNow();
+            awaitWriter();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing frames");
+        } finally {
+            if (gifOut != null) {
+                gifOut.close();
+            }
+        }
+        checkFailure();
+    }
+
+    // Wait for the writer thread to finish, ignoring further interrupts
+    private void awaitWriter() {
+        while (true) {
+            try {
+                if (writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ignored) {
+                // Keep waiting, the caller restores the interrupt flag
+            }
+        }
+    }
+
+    // Draw the cells straight into the raster, one scanline per row and copied cellSize times
+    private void render(int[][] gen, BufferedImage image) {
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        SampleModel model = image.getSampleModel();
+        int stride = model instanceof MultiPixelPackedSampleModel
+                ? ((MultiPixelPackedSampleModel) model).getScanlineStride()
+                : ((ComponentSampleModel) model).getScanlineStride();
+        for (int i = 0; i < DIMENSION; i++) {
+            int rowStart = i * cellSize * stride;
+            int[] row = gen[i];
+            if (format == Format.GIF) {
+                int p = rowStart;
+                for (int j = 0; j < DIMENSION; j++) {
+                    byte value = row[j] == 1 ? (byte) 1 : (byte) 0;
+                    for (int k = 0; k < cellSize; k++) {
+                        pixels[p++] = value;
+                    }
+                }
+            } else {
+                Arrays.fill(pixels, rowStart, rowStart + stride, (byte) 0);
+                int x = 0;
+                for (int j = 0; j < DIMENSION; j++) {
+                    if (row[j] != 1) {
+                        x += cellSize;
+                        continue;
+                    }
+                    for (int k = 0; k < cellSize; k++, x++) {
+                        pixels[rowStart + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                    }
+                }
+            }
+            for (int k = 1; k < cellSize; k++) {
+                System.arraycopy(pixels, rowStart, pixels, rowStart + k * stride, stride);
+            }
+        }
+    }
+
+    private void writeFrame(int index, byte[] data) throws IOException {
+        if (format == Format.GIF) {
+            gifOut.write(data);
+        } else {
+            Files.write(target.resolve(String.format("frame_%05d.png", index)), data);
+        }
+    }
+
+    // Fastest deflate level, the 1-bit palette already keeps the files small
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = pngWriter.get();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(PNG_QUALITY);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.reset();
+        }
+        return out.toByteArray();
+    }
+
+    // GIF89a header, global palette and the NETSCAPE extension to loop forever
+    private void writeGifHeader() throws IOException {
+        gifOut.write("GIF89a".getBytes(StandardCharsets.US_ASCII));
+        writeShort(gifOut, width);
+        writeShort(gifOut, width);
+        gifOut.write(0x80 | ((GIF_MIN_CODE_SIZE - 1) << 4) | (GIF_MIN_CODE_SIZE - 1));
+        gifOut.write(0); // Background color index
+        gifOut.write(0); // Pixel aspect ratio
+        for (int i = 0; i < PALETTE.getMapSize(); i++) {
+            Color c = new Color(PALETTE.getRGB(i));
+            gifOut.write(c.getRed());
+            gifOut.write(c.getGreen());
+            gifOut.write(c.getBlue());
+        }
+        gifOut.write(new byte[]{0x21, (byte) 0xFF, 0x0B});
+        gifOut.write("NETSCAPE2.0".getBytes(StandardCharsets.US_ASCII));
+        gifOut.write(new byte[]{0x03, 0x01, 0x00, 0x00, 0x00});
+    }
+
+    // Graphic control extension, image descriptor and LZW data of a single frame
+    private byte[] encodeGifFrame(BufferedImage image) throws IOException {
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        GifBlockWriter out = new GifBlockWriter(pixels.length / 4);
+        out.bytes.write(0x21);
+        out.bytes.write(0xF9);
+        out.bytes.write(4);
+        out.bytes.write(0x04); // Dispose: leave in place
+        writeShort(out.bytes, delayCs);
+        out.bytes.write(0); // Transparent color index (unused)
+        out.bytes.write(0);
+
+        out.bytes.write(0x2C);
+        writeShort(out.bytes, 0);
+        writeShort(out.bytes, 0);
+        writeShort(out.bytes, width);
+        writeShort(out.bytes, width);
+        out.bytes.write(0); // No local palette, not interlaced
+
+        out.bytes.write(GIF_MIN_CODE_SIZE);
+        lzwCompress(pixels, out);
+        out.finish();
+        return out.bytes.toByteArray();
+    }
+
+    // Variable-length LZW as specified by GIF89a, the table is indexed by (prefix code, pixel)
+    private void lzwCompress(byte[] pixels, GifBlockWriter out) {
+        int[] table = lzwTable.get();
+        Arrays.fill(table, 0);
+        int clearCode = 1 << GIF_MIN_CODE_SIZE;
+        int endCode = clearCode + 1;
+        out.codeSize = GIF_MIN_CODE_SIZE + 1;
+        out.nextCode = clearCode + 2;
+        out.writeCode(clearCode);
+
+        int prefix = pixels[0];
+        for (int i = 1; i < pixels.length; i++) {
+            int pixel = pixels[i];
+            int key = (prefix << GIF_MIN_CODE_SIZE) | pixel;
+            int code = table[key];
+            if (code != 0) {
+                prefix = code;
+                continue;
+            }
+            out.writeCode(prefix);
+            if (out.nextCode < GIF_MAX_CODE) {
+                table[key] = out.nextCode++;
+            } else {
+                // Table full, start over
+                out.writeCode(clearCode);
+                Arrays.fill(table, 0);
+                out.codeSize = GIF_MIN_CODE_SIZE + 1;
+                out.nextCode = clearCode + 2;
+            }
+            prefix = pixel;
+        }
+        out.writeCode(prefix);
+        out.writeCode(endCode);
+    }
+
+    // Packs LZW codes LSB first into the 255 byte sub-blocks of a GIF image
+    private static class GifBlockWriter {
+        private final ByteArrayOutputStream bytes;
+        private final byte[] block = new byte[255];
+        private int blockSize = 0;
+        private int bitBuffer = 0;
+        private int bitCount = 0;
+        private int codeSize;
+        private int nextCode;
+
+        GifBlockWriter(int expectedSize) {
+            this.bytes = new ByteArrayOutputStream(Math.max(expectedSize, 64));
+        }
+
+        void writeCode(int code) {
+            bitBuffer |= code << bitCount;
+            bitCount += codeSize;
+            while (bitCount >= 8) {
+                writeByte(bitBuffer & 0xFF);
+                bitBuffer >>>= 8;
+                bitCount -= 8;
+            }
+            // The decoder widens its codes once the next code no longer fits
+            if (nextCode > (1 << codeSize) - 1 && codeSize < 12) {
+                codeSize++;
+            }
+        }
+
+        void finish() {
+            if (bitCount > 0) {
+                writeByte(bitBuffer & 0xFF);
+                bitBuffer = 0;
+                bitCount = 0;
+            }
+            flushBlock();
+            bytes.write(0); // Block terminator
+        }
+
+        private void writeByte(int b) {
+            block[blockSize++] = (byte) b;
+            if (blockSize == block.length) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() {
+            if (blockSize == 0) return;
+            bytes.write(blockSize);
+            bytes.write(block, 0, blockSize);
+            blockSize = 0;
+        }
+    }
+
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // GIF stores 16-bit values little-endian
+    private static void writeShort(OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >> 8) & 0xFF);
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
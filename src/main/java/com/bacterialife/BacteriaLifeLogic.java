@@ -2,11 +2,20 @@ package com.bacterialife;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 public class BacteriaLifeLogic {
     private final int DIMENSION;
     private int round = 0;
+    private final int maxRounds;
     private static final int MAX_ROUNDS = 300;
+    // applyRules for every (bacteria, neighbours) pair, indexed by bacteria * 9 + neighbours
+    private static final int[] NEXT_STATE = new int[18];
+    static {
+        for (int i = 0; i < NEXT_STATE.length; i++) {
+            NEXT_STATE[i] = applyRules(i / 9, i % 9);
+        }
+    }
     private static final int[][] DIRECTIONS = {
             {-1, -1}, {-1, 0}, {-1, 1},
             {0, -1}, {0, 1},
@@ -15,7 +24,13 @@ public class BacteriaLifeLogic {
 
     // Main function, launching the algorithm
     public BacteriaLifeLogic(int dimension) {
+        this(dimension, MAX_ROUNDS);
+    }
+
+    // Custom round limit, for headless exports longer than the UI's safety cap
+    public BacteriaLifeLogic(int dimension, int maxRounds) {
         this.DIMENSION = dimension;
+        this.maxRounds = maxRounds;
     }
 
     // Generate initial generation, random positions
@@ -35,7 +50,7 @@ public class BacteriaLifeLogic {
     public int[][] generateNewGen(int[][] gen) {
         round++;
         // To prevent stack overflow, it wasn't in the assignment but just in case
-        if (round > MAX_ROUNDS) {
+        if (round > maxRounds) {
             System.out.println("Can't get a stable gen.");
             return gen;
         }
@@ -47,21 +62,12 @@ public class BacteriaLifeLogic {
                 int bacteria = gen[i][j];
                 int neighbours = checkNeighbours(gen, i, j);
 
-                // Apply rules
-                if (bacteria == 0 && neighbours == 3) {
-                    newGen[i][j] = 1; // Nacimiento
-                } else if (bacteria == 1 && (neighbours == 0 || neighbours == 1)) {
-                    newGen[i][j] = 0; // Muerte por soledad
-                } else if (bacteria == 1 && neighbours > 3) {
-                    newGen[i][j] = 0; // Muerte por asfixia
-                } else {
-                    newGen[i][j] = bacteria; // Nothing changes, supervivencia
-                }
+                newGen[i][j] = applyRules(bacteria, neighbours);
             }
         }
 
         // In BacteriaLifeLogic
-        if (round > MAX_ROUNDS) {
+        if (round > maxRounds) {
             System.out.println("Can't get a stable gen.");
             return gen;
         }
@@ -72,6 +78,64 @@ public class BacteriaLifeLogic {
     }
 
 
+    // Same rules written into newGen, so long runs can swap two boards instead of allocating one per round.
+    // Rows are split across threads. Returns false once the gen is stable or the round limit is reached
+    public boolean generateNewGen(int[][] gen, int[][] newGen) {
+        round++;
+        if (round > maxRounds) {
+            System.out.println("Can't get a stable gen.");
+            return false;
+        }
+        int bands = Math.min(DIMENSION, Runtime.getRuntime().availableProcessors() * 4);
+        return IntStream.range(0, bands).parallel()
+                .map(b -> generateRows(gen, newGen, b * DIMENSION / bands, (b + 1) * DIMENSION / bands) ? 1 : 0)
+                .sum() > 0;
+    }
+
+    // New gen for rows [from, to), returns true if any cell changed
+    private static boolean generateRows(int[][] gen, int[][] newGen, int from, int to) {
+        int last = gen.length - 1;
+        boolean changed = false;
+        for (int i = from; i < to; i++) {
+            int[] row = gen[i];
+            int[] newRow = newGen[i];
+            // Edges keep the bounds checks
+            if (i == 0 || i == last || last < 2) {
+                for (int j = 0; j <= last; j++) {
+                    newRow[j] = applyRules(row[j], checkNeighbours(gen, i, j));
+                    changed |= newRow[j] != row[j];
+                }
+                continue;
+            }
+            int[] up = gen[i - 1];
+            int[] down = gen[i + 1];
+            newRow[0] = applyRules(row[0], checkNeighbours(gen, i, 0));
+            newRow[last] = applyRules(row[last], checkNeighbours(gen, i, last));
+            changed |= newRow[0] != row[0] || newRow[last] != row[last];
+            // Interior cells, boards only hold 0 and 1 so the neighbours can be summed directly
+            for (int j = 1; j < last; j++) {
+                int neighbours = up[j - 1] + up[j] + up[j + 1]
+                        + row[j - 1] + row[j + 1]
+                        + down[j - 1] + down[j] + down[j + 1];
+                newRow[j] = NEXT_STATE[row[j] * 9 + neighbours];
+                changed |= newRow[j] != row[j];
+            }
+        }
+        return changed;
+    }
+
+    // Apply rules
+    private static int applyRules(int bacteria, int neighbours) {
+        if (bacteria == 0 && neighbours == 3) {
+            return 1; // Nacimiento
+        } else if (bacteria == 1 && (neighbours == 0 || neighbours == 1)) {
+            return 0; // Muerte por soledad
+        } else if (bacteria == 1 && neighbours > 3) {
+            return 0; // Muerte por asfixia
+        }
+        return bacteria; // Nothing changes, supervivencia
+    }
+
     // Count the neighbours
     public static int checkNeighbours(int[][] gen, int row, int col) {
         int neighbours = 0;
@@ -98,6 +162,10 @@ public class BacteriaLifeLogic {
         return round;
     }
 
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
     // Check if the gen hasn't changed (if it's stable)
     public static boolean checkStableGen(int[][] oldGen, int[][] newGen) {
         return Arrays.deepEquals(oldGen, newGen);
@@ -2,12 +2,23 @@ package com.bacterialife;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Main {
+    private static final String USAGE = "Usage: Main [<file.gif | frames dir> [dimension] [frames]]";
+
     public static void main(String[] args) {
         // Variables
         int dimension = 30;
 
+        // Headless export
+        if (args.length > 0) {
+            export(args, dimension);
+            return;
+        }
+
         // Create logic
         BacteriaLifeLogic logic = new BacteriaLifeLogic(dimension);
 
@@ -16,4 +27,36 @@ public class Main {
             new BacteriaLifeUI(logic);
         });
     }
-}
\ No newline at end of file
+
+    // Export a run to a GIF or a PNG frames directory, the round limit follows the requested frames
+    private static void export(String[] args, int dimension) {
+        int frames = 300;
+        if (args.length > 3 || args[0].startsWith("-")) {
+            System.out.println(USAGE);
+            return;
+        }
+        try {
+            if (args.length > 1) dimension = Integer.parseInt(args[1]);
+            if (args.length > 2) frames = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (dimension <= 0 || frames <= 0) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Path target = Paths.get(args[0]);
+        BacteriaLifeExporter.Format format = args[0].toLowerCase().endsWith(".gif")
+                ? BacteriaLifeExporter.Format.GIF : BacteriaLifeExporter.Format.PNG_SEQUENCE;
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(dimension, frames);
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(target, format, dimension,
+                Math.max(1, 600 / dimension), Runtime.getRuntime().availableProcessors(), 100)) {
+            int exported = exporter.exportRun(logic, logic.generateInitialGen(), frames);
+            System.out.println("Exported " + exported + " frames to " + target);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+}
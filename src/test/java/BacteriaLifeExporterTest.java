@@ -0,0 +1,254 @@
+import com.bacterialife.BacteriaLifeExporter;
+import com.bacterialife.BacteriaLifeLogic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BacteriaLifeExporterTest {
+
+    @TempDir
+    Path tmp;
+
+    // =========================================================================
+    // 1. TEST DE GIF ANIMADO
+    // =========================================================================
+    @Test
+    public void testGifFramesEnOrden() throws Exception {
+        Path gif = tmp.resolve("run.gif");
+        List<int[][]> gens = new ArrayList<>();
+        Random rand = new Random(42);
+        for (int f = 0; f < 12; f++) {
+            gens.add(randomGen(rand, 8));
+        }
+
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(gif, BacteriaLifeExporter.Format.GIF, 8, 3, 4, 100)) {
+            for (int[][] gen : gens) {
+                exporter.addFrame(gen);
+            }
+            assertEquals(12, exporter.getFrameCount());
+        }
+
+        List<BufferedImage> frames = leerGif(gif);
+        assertEquals(12, frames.size(), "El GIF debe tener un frame por generación");
+        for (int f = 0; f < gens.size(); f++) {
+            assertFrame(gens.get(f), frames.get(f), 3);
+        }
+    }
+
+    @Test
+    public void testGifTablaLzwLlena() throws Exception {
+        // Un tablero aleatorio grande llena la tabla LZW (4096 códigos) y fuerza el código de limpieza
+        Path gif = tmp.resolve("big.gif");
+        int[][] gen = randomGen(new Random(7), 300);
+
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(gif, BacteriaLifeExporter.Format.GIF, 300, 1, 2, 0)) {
+            exporter.addFrame(gen);
+        }
+
+        List<BufferedImage> frames = leerGif(gif);
+        assertEquals(1, frames.size());
+        assertFrame(gen, frames.get(0), 1);
+    }
+
+    // =========================================================================
+    // 2. TEST DE SECUENCIA PNG
+    // =========================================================================
+    @Test
+    public void testSecuenciaPng() throws Exception {
+        Path dir = tmp.resolve("frames");
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(10);
+        int[][] gen = randomGen(new Random(1), 10);
+        int[][] primera = gen;
+
+        int exported;
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(dir, BacteriaLifeExporter.Format.PNG_SEQUENCE, 10, 2, 3, 100)) {
+            exported = exporter.exportRun(logic, gen, 5);
+        }
+
+        assertTrue(exported > 0 && exported <= 5);
+        for (int f = 0; f < exported; f++) {
+            assertTrue(Files.exists(dir.resolve(String.format("frame_%05d.png", f))));
+        }
+        assertFalse(Files.exists(dir.resolve(String.format("frame_%05d.png", exported))));
+        assertFrame(primera, ImageIO.read(dir.resolve("frame_00000.png").toFile()), 2);
+    }
+
+    @Test
+    public void testExportRunSeDetieneSiEstable() throws Exception {
+        // Un tablero vacío ya es estable: solo se exporta el primer frame
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(4);
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(tmp.resolve("vacio"), BacteriaLifeExporter.Format.PNG_SEQUENCE, 4, 1, 1, 0)) {
+            assertEquals(1, exporter.exportRun(logic, new int[4][4], 100));
+        }
+    }
+
+    @Test
+    public void testExportRunMasAllaDelLimiteDeRondas() throws Exception {
+        // Un parpadeador oscila para siempre: con el límite por defecto se corta en 301 frames
+        int[][] blinker = new int[5][5];
+        blinker[2][1] = blinker[2][2] = blinker[2][3] = 1;
+
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(tmp.resolve("corto"), BacteriaLifeExporter.Format.GIF, 5, 1, 2, 0)) {
+            assertEquals(301, exporter.exportRun(new BacteriaLifeLogic(5), blinker, 400));
+        }
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(tmp.resolve("largo"), BacteriaLifeExporter.Format.GIF, 5, 1, 2, 0)) {
+            assertEquals(400, exporter.exportRun(new BacteriaLifeLogic(5, 400), blinker, 400));
+        }
+    }
+
+    @Test
+    public void testExportRunSinGeneracionExtra() throws Exception {
+        // Tras el último frame no se calcula otra generación, y el tablero inicial no se modifica
+        int[][] blinker = new int[5][5];
+        blinker[2][1] = blinker[2][2] = blinker[2][3] = 1;
+        int[][] copia = new int[5][];
+        for (int i = 0; i < 5; i++) {
+            copia[i] = blinker[i].clone();
+        }
+
+        Path gif = tmp.resolve("sinextra.gif");
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(5, 100);
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(gif, BacteriaLifeExporter.Format.GIF, 5, 1, 2, 0)) {
+            assertEquals(10, exporter.exportRun(logic, blinker, 10));
+        }
+        assertEquals(9, logic.getRound(), "10 frames necesitan 9 generaciones");
+        assertArrayEquals(copia, blinker);
+
+        // Los frames alternan entre horizontal y vertical
+        List<BufferedImage> frames = leerGif(gif);
+        int[][] vertical = new int[5][5];
+        vertical[1][2] = vertical[2][2] = vertical[3][2] = 1;
+        for (int f = 0; f < frames.size(); f++) {
+            assertFrame(f % 2 == 0 ? copia : vertical, frames.get(f), 1);
+        }
+    }
+
+    // =========================================================================
+    // 3. TEST DE ERRORES
+    // =========================================================================
+    @Test
+    public void testArgumentosInvalidos() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BacteriaLifeExporter(tmp.resolve("a.gif"), BacteriaLifeExporter.Format.GIF, 0, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BacteriaLifeExporter(tmp.resolve("a.gif"), BacteriaLifeExporter.Format.GIF, 70000, 1, 1, 0));
+
+        IllegalArgumentException tooLarge = assertThrows(IllegalArgumentException.class,
+                () -> new BacteriaLifeExporter(tmp.resolve("a.gif"), BacteriaLifeExporter.Format.GIF, 100000, 100000, 1, 0));
+        assertTrue(tooLarge.getMessage().contains("10000000000"), "El tamaño no debe desbordar");
+        // El límite de 16 bits es propio del GIF, el PNG solo lo limita el tamaño del raster
+        assertThrows(IllegalArgumentException.class,
+                () -> new BacteriaLifeExporter(tmp.resolve("png"), BacteriaLifeExporter.Format.PNG_SEQUENCE, 500000, 1, 1, 0));
+
+        // El destino PNG ya existe como fichero: no se puede crear el directorio
+        Path fichero = Files.createFile(tmp.resolve("ocupado"));
+        assertThrows(IOException.class,
+                () -> new BacteriaLifeExporter(fichero, BacteriaLifeExporter.Format.PNG_SEQUENCE, 4, 1, 1, 0));
+
+        BacteriaLifeExporter exporter = new BacteriaLifeExporter(tmp.resolve("b.gif"), BacteriaLifeExporter.Format.GIF, 4, 1, 1, 0);
+        assertThrows(IllegalArgumentException.class, () -> exporter.addFrame(new int[3][3]));
+        assertThrows(IllegalArgumentException.class, () -> exporter.exportRun(new BacteriaLifeLogic(4), new int[3][3], 5));
+        // Tablero irregular: una fila corta debe rechazarse antes de pintar
+        int[][] irregular = {new int[4], new int[4], new int[2], new int[4]};
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalArgumentException.class, () -> exporter.addFrame(irregular));
+        }
+        exporter.addFrame(new int[4][4]);
+        exporter.close();
+        exporter.close(); // Cerrar dos veces no debe fallar
+        assertThrows(IllegalStateException.class, () -> exporter.addFrame(new int[4][4]));
+    }
+
+    @Test
+    public void testInterrupcionNoBloqueaBuffers() throws Exception {
+        // Tras varias interrupciones los buffers siguen disponibles
+        Path gif = tmp.resolve("interrumpido.gif");
+        try (BacteriaLifeExporter exporter = new BacteriaLifeExporter(gif, BacteriaLifeExporter.Format.GIF, 4, 1, 1, 0)) {
+            for (int i = 0; i < 5; i++) {
+                Thread.currentThread().interrupt();
+                assertThrows(java.io.InterruptedIOException.class, () -> exporter.addFrame(new int[4][4]));
+                assertTrue(Thread.interrupted(), "Debe conservar el estado de interrupción");
+            }
+            exporter.addFrame(new int[4][4]);
+            exporter.addFrame(new int[4][4]);
+            exporter.addFrame(new int[4][4]);
+        }
+        assertEquals(3, leerGif(gif).size());
+    }
+
+    @Test
+    public void testCerrarInterrumpido() throws Exception {
+        // Interrumpido al cerrar: espera al escritor, cierra el fichero y conserva la interrupción
+        Path gif = tmp.resolve("cerrado.gif");
+        // Frames grandes para que el escritor siga ocupado al cerrar
+        BacteriaLifeExporter exporter = new BacteriaLifeExporter(gif, BacteriaLifeExporter.Format.GIF, 1500, 1, 1, 0);
+        int[][] gen = randomGen(new Random(3), 1500);
+        exporter.addFrame(gen);
+        exporter.addFrame(gen);
+        Thread.currentThread().interrupt();
+        assertThrows(java.io.InterruptedIOException.class, exporter::close);
+        assertTrue(Thread.interrupted(), "Debe conservar el estado de interrupción");
+        assertDoesNotThrow(exporter::close);
+        assertTrue(Files.size(gif) > 0);
+    }
+
+    @Test
+    public void testErrorDeEscritura() throws Exception {
+        // Si el frame no se puede escribir, el error llega al cerrar
+        Path dir = tmp.resolve("bloqueado");
+        BacteriaLifeExporter exporter = new BacteriaLifeExporter(dir, BacteriaLifeExporter.Format.PNG_SEQUENCE, 4, 1, 1, 0);
+        Files.createDirectory(dir.resolve("frame_00000.png"));
+        exporter.addFrame(new int[4][4]);
+        assertThrows(IOException.class, exporter::close);
+    }
+
+    // -------------------------------------------------------------------------
+    // HELPERS
+    // -------------------------------------------------------------------------
+
+    private int[][] randomGen(Random rand, int dim) {
+        int[][] gen = new int[dim][dim];
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                gen[i][j] = rand.nextInt(2);
+            }
+        }
+        return gen;
+    }
+
+    private List<BufferedImage> leerGif(Path gif) throws IOException {
+        List<BufferedImage> frames = new ArrayList<>();
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream in = ImageIO.createImageInputStream(gif.toFile())) {
+            reader.setInput(in);
+            int n = reader.getNumImages(true);
+            for (int i = 0; i < n; i++) {
+                frames.add(reader.read(i));
+            }
+        } finally {
+            reader.dispose();
+        }
+        return frames;
+    }
+
+    private void assertFrame(int[][] gen, BufferedImage image, int cellSize) {
+        assertEquals(gen.length * cellSize, image.getWidth());
+        assertEquals(gen.length * cellSize, image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int expected = gen[y / cellSize][x / cellSize] == 1 ? 0x000000 : 0xFFFFFF;
+                assertEquals(expected, image.getRGB(x, y) & 0xFFFFFF, "Pixel incorrecto en (" + x + "," + y + ")");
+            }
+        }
+    }
+}
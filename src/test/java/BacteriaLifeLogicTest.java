@@ -164,4 +164,58 @@ public class BacteriaLifeLogicTest {
         int[][] nextGen = logic.generateNewGen(gen);
         assertTrue(BacteriaLifeLogic.checkStableGen(gen, nextGen), "Si supera MAX_ROUNDS no debe evolucionar");
     }
-}
\ No newline at end of file
+
+    // =========================================================================
+    // 6. TEST DE LÍMITE DE RONDAS PERSONALIZADO
+    // =========================================================================
+    @Test
+    public void testMaxRondasPersonalizado() {
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(5, 500);
+        assertEquals(500, logic.getMaxRounds());
+        assertEquals(300, new BacteriaLifeLogic(5).getMaxRounds());
+
+        // Un parpadeador sigue evolucionando pasada la ronda 300
+        int[][] gen = new int[5][5];
+        gen[2][1] = gen[2][2] = gen[2][3] = 1;
+        for (int i = 0; i < 400; i++) {
+            int[][] nextGen = logic.generateNewGen(gen);
+            assertFalse(BacteriaLifeLogic.checkStableGen(gen, nextGen), "No debe cortarse en la ronda " + (i + 1));
+            gen = nextGen;
+        }
+    }
+
+    // =========================================================================
+    // 7. TEST DE GENERACIÓN SOBRE TABLERO REUTILIZADO
+    // =========================================================================
+    @Test
+    public void testGeneracionReutilizadaIgualALaOriginal() {
+        // Mismas reglas que generateNewGen, incluidos bordes y tableros pequeños
+        for (int dim : new int[]{1, 2, 3, 4, 17, 64}) {
+            BacteriaLifeLogic original = new BacteriaLifeLogic(dim);
+            BacteriaLifeLogic reutilizada = new BacteriaLifeLogic(dim);
+            int[][] gen = original.generateInitialGen();
+            int[][] newGen = new int[dim][dim];
+            for (int ronda = 0; ronda < 5; ronda++) {
+                int[][] esperada = original.generateNewGen(gen);
+                boolean cambio = reutilizada.generateNewGen(gen, newGen);
+                assertArrayEquals(esperada, newGen, "Tablero " + dim + "x" + dim + ", ronda " + ronda);
+                assertEquals(!BacteriaLifeLogic.checkStableGen(gen, esperada), cambio);
+                gen = esperada;
+            }
+        }
+    }
+
+    @Test
+    public void testGeneracionReutilizadaEstableYLimite() {
+        // Tablero vacío: estable
+        BacteriaLifeLogic logic = new BacteriaLifeLogic(4, 1);
+        assertFalse(logic.generateNewGen(new int[4][4], new int[4][4]));
+
+        // Pasado el límite de rondas se considera estable
+        int[][] blinker = new int[5][5];
+        blinker[2][1] = blinker[2][2] = blinker[2][3] = 1;
+        BacteriaLifeLogic limitada = new BacteriaLifeLogic(5, 1);
+        assertTrue(limitada.generateNewGen(blinker, new int[5][5]));
+        assertFalse(limitada.generateNewGen(blinker, new int[5][5]));
+    }
+}
@@ -1,8 +1,16 @@
 import com.bacterialife.Main;
 import org.junit.jupiter.api.Test;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class MainTest {
+    @TempDir
+    Path tmp;
+
     @Test
     public void testMain() {
         assertDoesNotThrow(() -> {
@@ -13,4 +21,54 @@ public class MainTest {
             Main.main(new String[]{});
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExportGif() {
+        Path gif = tmp.resolve("run.gif");
+        String salida = capturarSalida(new String[]{gif.toString(), "10", "5"});
+        assertTrue(Files.exists(gif));
+        assertTrue(salida.contains("Exported"), salida);
+    }
+
+    @Test
+    public void testExportPng() {
+        Path dir = tmp.resolve("frames");
+        capturarSalida(new String[]{dir.toString(), "10", "3"});
+        assertTrue(Files.exists(dir.resolve("frame_00000.png")));
+    }
+
+    @Test
+    public void testArgumentosInvalidos() {
+        // Ninguno de estos debe lanzar excepción ni crear ficheros
+        String[][] casos = {
+                {"--help"},
+                {tmp.resolve("a.gif").toString(), "diez"},
+                {tmp.resolve("a.gif").toString(), "10", "-1"},
+                {tmp.resolve("a.gif").toString(), "10", "5", "extra"}
+        };
+        for (String[] args : casos) {
+            assertTrue(capturarSalida(args).contains("Usage"), String.join(" ", args));
+        }
+        assertFalse(Files.exists(tmp.resolve("a.gif")));
+        assertFalse(Files.exists(Path.of("--help")));
+
+        // Tablero demasiado grande para un GIF: mensaje de error, no traza
+        assertTrue(capturarSalida(new String[]{tmp.resolve("b.gif").toString(), "70000", "1"}).contains("Export failed"));
+    }
+
+    // -------------------------------------------------------------------------
+    // HELPERS
+    // -------------------------------------------------------------------------
+
+    private String capturarSalida(String[] args) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(buffer));
+        try {
+            assertDoesNotThrow(() -> Main.main(args));
+        } finally {
+            System.setOut(original);
+        }
+        return buffer.toString();
+    }
+}